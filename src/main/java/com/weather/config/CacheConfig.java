@@ -20,10 +20,18 @@ public class CacheConfig {
     @Value("${cache.expire-after-write-minutes:10}")
     private int expireAfterWriteMinutes;
 
+    @Value("${cache.negative.max-size:500}")
+    private int negativeMaxSize;
+
+    @Value("${cache.negative.expire-after-write-seconds:60}")
+    private int negativeExpireAfterWriteSeconds;
+
     @Bean
     public CacheManager cacheManager() {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager("weatherCache");
         cacheManager.setCaffeine(caffeineCacheBuilder());
+        // Unknown cities get their own bounded cache so junk lookups can't evict real entries
+        cacheManager.registerCustomCache("negativeCache", negativeCacheBuilder().build());
         return cacheManager;
     }
 
@@ -33,4 +41,11 @@ public class CacheConfig {
                 .expireAfterWrite(expireAfterWriteMinutes, TimeUnit.MINUTES)
                 .recordStats();
     }
+
+    private Caffeine<Object, Object> negativeCacheBuilder() {
+        return Caffeine.newBuilder()
+                .maximumSize(negativeMaxSize)
+                .expireAfterWrite(negativeExpireAfterWriteSeconds, TimeUnit.SECONDS)
+                .recordStats();
+    }
 }
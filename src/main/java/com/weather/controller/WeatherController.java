@@ -4,13 +4,19 @@ import com.weather.model.ApiResponse;
 import com.weather.model.CacheStats;
 import com.weather.model.WeatherResponse;
 import com.weather.service.WeatherService;
+import com.weather.service.WeatherSubscriptionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.validation.constraints.NotBlank;
 
+import java.util.List;
+
 /**
  * REST Controller for weather operations.
  * Provides endpoints to search weather by city name and manage cache.
@@ -22,9 +28,11 @@ public class WeatherController {
     private static final Logger logger = LoggerFactory.getLogger(WeatherController.class);
 
     private final WeatherService weatherService;
+    private final WeatherSubscriptionService subscriptionService;
 
-    public WeatherController(WeatherService weatherService) {
+    public WeatherController(WeatherService weatherService, WeatherSubscriptionService subscriptionService) {
         this.weatherService = weatherService;
+        this.subscriptionService = subscriptionService;
     }
 
     /**
@@ -49,6 +57,23 @@ public class WeatherController {
         return ResponseEntity.ok(ApiResponse.success(weatherData, isCached && wasCached));
     }
 
+    /**
+     * GET /api/weather/subscribe?city={city1}&city={city2}
+     * Subscribe to weather updates via Server-Sent Events.
+     * Current weather is sent on connect, then again only when a city's data changes.
+     * Cities are repeated parameters rather than a comma-separated list because
+     * a single city query may itself contain a comma, e.g. "London,uk".
+     * 
+     * @param params Request parameters; each "city" value is one city (at least one required)
+     * @return SseEmitter streaming "weather" events
+     */
+    @GetMapping(value = "/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestParam MultiValueMap<String, String> params) {
+        List<String> cities = params.getOrDefault("city", List.of());
+        logger.info("Received weather subscription request for cities: {}", cities);
+        return subscriptionService.subscribe(cities);
+    }
+
     /**
      * GET /api/weather/cache/stats
      * Get cache statistics.
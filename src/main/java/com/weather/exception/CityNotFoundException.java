@@ -0,0 +1,14 @@
+package com.weather.exception;
+
+/**
+ * Thrown when the weather API does not know the requested city.
+ * This is an expected outcome of user input, so it is logged without a stack trace.
+ */
+public class CityNotFoundException extends WeatherServiceException {
+
+    public static final String MESSAGE = "City not found. Please check the city name and try again.";
+
+    public CityNotFoundException() {
+        super(MESSAGE);
+    }
+}
@@ -4,13 +4,22 @@ import com.weather.model.ApiResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 
+import java.io.IOException;
+
+/**
+ * Maps exceptions to ApiResponse errors.
+ * Responses declare JSON explicitly so errors still render for clients that
+ * only accept text/event-stream, such as EventSource on /subscribe.
+ */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
@@ -21,6 +30,25 @@ public class GlobalExceptionHandler {
         logger.error("Weather service error: {}", ex.getMessage(), ex);
         return ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler({InvalidCityException.class, CityNotFoundException.class})
+    public ResponseEntity<ApiResponse<Void>> handleRejectedCity(WeatherServiceException ex) {
+        logger.warn("Rejected city lookup: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(SubscriptionLimitException.class)
+    public ResponseEntity<ApiResponse<Void>> handleSubscriptionLimit(SubscriptionLimitException ex) {
+        logger.warn("Subscription rejected: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
                 .body(ApiResponse.error(ex.getMessage()));
     }
 
@@ -28,10 +56,11 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ApiResponse<Void>> handleHttpClientError(HttpClientErrorException ex) {
         logger.error("HTTP client error: {}", ex.getMessage());
         String message = ex.getStatusCode().value() == 404 
-                ? "City not found. Please check the city name and try again."
+                ? CityNotFoundException.MESSAGE
                 : "Invalid request to weather API: " + ex.getMessage();
         return ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
                 .body(ApiResponse.error(message));
     }
 
@@ -40,6 +69,7 @@ public class GlobalExceptionHandler {
         logger.error("HTTP server error: {}", ex.getMessage());
         return ResponseEntity
                 .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
                 .body(ApiResponse.error("Weather service is temporarily unavailable. Please try again later."));
     }
 
@@ -48,14 +78,34 @@ public class GlobalExceptionHandler {
         logger.error("Resource access error: {}", ex.getMessage());
         return ResponseEntity
                 .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
                 .body(ApiResponse.error("Unable to connect to weather service. Please check your internet connection."));
     }
 
+    /**
+     * An event stream that outlived its timeout. The response is already committed,
+     * so nothing is written and the stream just ends.
+     */
+    @ExceptionHandler(AsyncRequestTimeoutException.class)
+    public void handleAsyncRequestTimeout(AsyncRequestTimeoutException ex) {
+        logger.debug("Async request timed out");
+    }
+
+    /**
+     * The client went away mid-response, typically a closed event stream.
+     * There is nobody left to write an error to.
+     */
+    @ExceptionHandler(IOException.class)
+    public void handleClientDisconnect(IOException ex) {
+        logger.debug("Client disconnected: {}", ex.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<Void>> handleGenericException(Exception ex) {
         logger.error("Unexpected error: {}", ex.getMessage(), ex);
         return ResponseEntity
                 .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .contentType(MediaType.APPLICATION_JSON)
                 .body(ApiResponse.error("An unexpected error occurred. Please try again later."));
     }
 }
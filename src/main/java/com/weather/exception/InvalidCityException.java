@@ -0,0 +1,12 @@
+package com.weather.exception;
+
+/**
+ * Thrown when a city name fails validation before any call to the weather API.
+ * This is an expected outcome of user input, so it is logged without a stack trace.
+ */
+public class InvalidCityException extends WeatherServiceException {
+
+    public InvalidCityException(String message) {
+        super(message);
+    }
+}
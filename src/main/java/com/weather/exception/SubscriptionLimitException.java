@@ -0,0 +1,11 @@
+package com.weather.exception;
+
+/**
+ * Thrown when a new subscription would exceed the service-wide subscription limits.
+ */
+public class SubscriptionLimitException extends WeatherServiceException {
+
+    public SubscriptionLimitException(String message) {
+        super(message);
+    }
+}
@@ -11,4 +11,6 @@ public class CacheStats {
     private double hitRate;
     private long evictionCount;
     private long size;
+    private long negativeHitCount;
+    private long negativeSize;
 }
@@ -1,6 +1,8 @@
 package com.weather.service;
 
 import com.github.benmanes.caffeine.cache.Cache;
+import com.weather.exception.CityNotFoundException;
+import com.weather.exception.InvalidCityException;
 import com.weather.exception.WeatherServiceException;
 import com.weather.model.CacheStats;
 import com.weather.model.WeatherResponse;
@@ -8,17 +10,26 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.util.regex.Pattern;
+
 @Service
 public class WeatherService {
 
     private static final Logger logger = LoggerFactory.getLogger(WeatherService.class);
 
+    static final int MAX_CITY_NAME_LENGTH = 100;
+
+    // Letters (any script) plus the separators real place names use, e.g. "St. John's", "Aix-en-Provence", "London,uk"
+    private static final Pattern CITY_NAME_PATTERN = Pattern.compile("^[\\p{L}\\p{M}][\\p{L}\\p{M} .,'\\-]*$");
+
     private final RestTemplate restTemplate;
     private final CacheManager cacheManager;
 
@@ -36,17 +47,44 @@ public class WeatherService {
     /**
      * Fetch current weather for a city with caching support.
      * Cache key is the lowercase city name for case-insensitive matching.
+     * Invalid names are rejected and cities recently reported as unknown by the
+     * API are answered from the negative cache, without calling the API.
      * 
      * @param cityName The name of the city
      * @return WeatherResponse containing current weather data
-     * @throws WeatherServiceException if the API call fails
+     * @throws WeatherServiceException if the city name is invalid, known to be unknown, or the API call fails
      */
     @Cacheable(value = "weatherCache", key = "#cityName.toLowerCase()")
     public WeatherResponse getCurrentWeather(String cityName) {
+        return fetchWeather(cityName);
+    }
+
+    /**
+     * Fetch current weather for a city from the API and replace the cached entry.
+     * Used to refresh cities that have live subscribers.
+     * 
+     * @param cityName The name of the city
+     * @return WeatherResponse containing current weather data
+     * @throws WeatherServiceException if the city name is invalid, known to be unknown, or the API call fails
+     */
+    @CachePut(value = "weatherCache", key = "#cityName.toLowerCase()")
+    public WeatherResponse refreshWeather(String cityName) {
+        return fetchWeather(cityName);
+    }
+
+    private WeatherResponse fetchWeather(String cityName) {
         if (cityName == null || cityName.trim().isEmpty()) {
             throw new WeatherServiceException("City name cannot be empty");
         }
 
+        validateCityName(cityName);
+
+        String negativeKey = cityName.trim().toLowerCase();
+        if (isKnownUnknown(negativeKey)) {
+            logger.debug("City '{}' served from negative cache", cityName);
+            throw new CityNotFoundException();
+        }
+
         if ("YOUR_API_KEY_HERE".equals(apiKey)) {
             throw new WeatherServiceException("Please configure your OpenWeatherMap API key in application.properties");
         }
@@ -69,12 +107,40 @@ public class WeatherService {
             logger.info("Successfully fetched weather data for: {}", cityName);
             return response;
 
+        } catch (HttpClientErrorException.NotFound e) {
+            // Reported like a negative-cache hit, so every unknown city is logged once, at WARN, by the handler
+            logger.debug("City not found by weather API: {}", cityName);
+            rememberUnknown(negativeKey);
+            throw new CityNotFoundException();
         } catch (Exception e) {
             logger.error("Error fetching weather data for city: {}", cityName, e);
             throw e;
         }
     }
 
+    private void validateCityName(String cityName) {
+        String trimmed = cityName.trim();
+        if (trimmed.length() > MAX_CITY_NAME_LENGTH) {
+            throw new InvalidCityException(
+                    "City name must not exceed " + MAX_CITY_NAME_LENGTH + " characters");
+        }
+        if (!CITY_NAME_PATTERN.matcher(trimmed).matches()) {
+            throw new InvalidCityException("City name contains invalid characters");
+        }
+    }
+
+    private boolean isKnownUnknown(String key) {
+        org.springframework.cache.Cache cache = cacheManager.getCache("negativeCache");
+        return cache != null && cache.get(key) != null;
+    }
+
+    private void rememberUnknown(String key) {
+        org.springframework.cache.Cache cache = cacheManager.getCache("negativeCache");
+        if (cache != null) {
+            cache.put(key, Boolean.TRUE);
+        }
+    }
+
     /**
      * Check if weather data for a city is cached.
      * 
@@ -96,6 +162,15 @@ public class WeatherService {
      */
     public CacheStats getCacheStats() {
         org.springframework.cache.Cache cache = cacheManager.getCache("weatherCache");
+        org.springframework.cache.Cache negativeCache = cacheManager.getCache("negativeCache");
+
+        long negativeHitCount = 0;
+        long negativeSize = 0;
+        if (negativeCache instanceof CaffeineCache) {
+            Cache<Object, Object> nativeNegativeCache = ((CaffeineCache) negativeCache).getNativeCache();
+            negativeHitCount = nativeNegativeCache.stats().hitCount();
+            negativeSize = nativeNegativeCache.estimatedSize();
+        }
         
         if (cache instanceof CaffeineCache) {
             Cache<Object, Object> nativeCache = ((CaffeineCache) cache).getNativeCache();
@@ -106,15 +181,17 @@ public class WeatherService {
                     stats.missCount(),
                     stats.hitRate(),
                     stats.evictionCount(),
-                    nativeCache.estimatedSize()
+                    nativeCache.estimatedSize(),
+                    negativeHitCount,
+                    negativeSize
             );
         }
         
-        return new CacheStats(0, 0, 0.0, 0, 0);
+        return new CacheStats(0, 0, 0.0, 0, 0, negativeHitCount, negativeSize);
     }
 
     /**
-     * Clear all cached weather data.
+     * Clear all cached weather data, including remembered unknown cities.
      */
     public void clearCache() {
         org.springframework.cache.Cache cache = cacheManager.getCache("weatherCache");
@@ -122,5 +199,10 @@ public class WeatherService {
             cache.clear();
             logger.info("Weather cache cleared");
         }
+        org.springframework.cache.Cache negativeCache = cacheManager.getCache("negativeCache");
+        if (negativeCache != null) {
+            negativeCache.clear();
+            logger.info("Negative cache cleared");
+        }
     }
 }
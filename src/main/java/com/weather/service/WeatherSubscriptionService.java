@@ -0,0 +1,304 @@
+package com.weather.service;
+
+import com.weather.exception.SubscriptionLimitException;
+import com.weather.exception.WeatherServiceException;
+import com.weather.model.ApiResponse;
+import com.weather.model.WeatherResponse;
+import org.slf4j.Logger;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes weather updates to Server-Sent Events subscribers.
+ * Subscribed cities are refreshed on a fixed schedule with one API call per city,
+ * and an event is sent to every subscriber of that city only when the data changed.
+ * The total number of subscriptions and of distinct subscribed cities is capped so
+ * refreshes stay within the weather API's rate limit.
+ * <p>
+ * Events are written on a small push pool rather than the scheduler thread, with at most
+ * one pending delivery per subscription, so a client that stops reading holds up one push
+ * thread instead of every other subscriber.
+ */
+@Service
+public class WeatherSubscriptionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WeatherSubscriptionService.class);
+
+    static final String EVENT_NAME = "weather";
+
+    private final WeatherService weatherService;
+
+    private final Map<String, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final Map<SseEmitter, Subscription> subscriptions = new ConcurrentHashMap<>();
+    // Last weather pushed per city, so refreshes only fan out real changes
+    private final Map<String, WeatherResponse> lastPushed = new ConcurrentHashMap<>();
+
+    @Value("${subscription.max-cities-per-subscription:20}")
+    private int maxCitiesPerSubscription;
+
+    @Value("${subscription.max-subscriptions:10000}")
+    private int maxSubscriptions;
+
+    @Value("${subscription.max-subscribed-cities:50}")
+    private int maxSubscribedCities;
+
+    @Value("${subscription.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    private final Executor pushExecutor;
+
+    @Autowired
+    public WeatherSubscriptionService(WeatherService weatherService,
+                                      @Value("${subscription.push-threads:4}") int pushThreads) {
+        this(weatherService, newPushExecutor(pushThreads));
+    }
+
+    WeatherSubscriptionService(WeatherService weatherService, Executor pushExecutor) {
+        this.weatherService = weatherService;
+        this.pushExecutor = pushExecutor;
+    }
+
+    private static ExecutorService newPushExecutor(int pushThreads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        // Unbounded queue, but each subscription has at most one queued delivery,
+        // so it never holds more than subscription.max-subscriptions tasks
+        return new ThreadPoolExecutor(pushThreads, pushThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "weather-push-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (pushExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Subscribe to weather updates for a set of cities.
+     * The current weather for each city is sent immediately, served from cache when available.
+     *
+     * @param cities The city names to subscribe to
+     * @return SseEmitter that receives a "weather" event per update
+     * @throws WeatherServiceException if no cities or too many cities are requested
+     * @throws SubscriptionLimitException if the service-wide subscription limits are reached
+     */
+    public SseEmitter subscribe(List<String> cities) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (cities != null) {
+            for (String city : cities) {
+                if (city != null && !city.trim().isEmpty()) {
+                    keys.add(city.trim().toLowerCase());
+                }
+            }
+        }
+        if (keys.isEmpty()) {
+            throw new WeatherServiceException("At least one city is required");
+        }
+        if (keys.size() > maxCitiesPerSubscription) {
+            throw new WeatherServiceException(
+                    "Cannot subscribe to more than " + maxCitiesPerSubscription + " cities in one subscription");
+        }
+        checkCapacity(keys);
+
+        // Resolve every city before registering so invalid or unknown cities fail the request
+        Map<String, WeatherResponse> snapshot = new LinkedHashMap<>();
+        for (String key : keys) {
+            snapshot.put(key, weatherService.getCurrentWeather(key));
+        }
+
+        SseEmitter emitter = createEmitter();
+        synchronized (this) {
+            // Re-check now that registration is exclusive; the earlier check only avoids wasted API calls
+            checkCapacity(keys);
+            subscriptions.put(emitter, new Subscription(keys));
+            for (String key : keys) {
+                subscribers.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(emitter);
+                // Start from what existing subscribers last saw, so the next refresh brings everyone up to date.
+                // The emitter is not attached to the response yet, so this send only buffers.
+                send(emitter, lastPushed.computeIfAbsent(key, snapshot::get));
+            }
+        }
+        emitter.onCompletion(() -> unsubscribe(emitter));
+        emitter.onTimeout(() -> {
+            // Completing here ends the stream cleanly; EventSource clients reconnect on their own
+            unsubscribe(emitter);
+            emitter.complete();
+        });
+        emitter.onError(e -> unsubscribe(emitter));
+
+        logger.info("New weather subscription for cities: {}", keys);
+        return emitter;
+    }
+
+    private void checkCapacity(Set<String> keys) {
+        if (subscriptions.size() >= maxSubscriptions) {
+            throw new SubscriptionLimitException("Subscription limit reached. Please try again later.");
+        }
+        long newCities = keys.stream().filter(key -> !subscribers.containsKey(key)).count();
+        if (subscribers.size() + newCities > maxSubscribedCities) {
+            throw new SubscriptionLimitException("Subscribed city limit reached. Please try again later.");
+        }
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    /**
+     * Refresh every subscribed city once and push changed data to its subscribers.
+     */
+    @Scheduled(fixedDelayString = "${subscription.refresh-interval-ms:600000}",
+            initialDelayString = "${subscription.refresh-interval-ms:600000}")
+    public void refreshSubscribedCities() {
+        for (String city : subscribers.keySet()) {
+            try {
+                refreshCity(city);
+            } catch (Exception e) {
+                logger.warn("Failed to refresh subscribed city '{}': {}", city, e.getMessage());
+            }
+        }
+    }
+
+    void refreshCity(String city) {
+        if (!subscribers.containsKey(city)) {
+            return;
+        }
+
+        WeatherResponse current = weatherService.refreshWeather(city);
+
+        // Subscribers may have come and gone during the API call; decide who gets the push
+        // under the same lock as registration so no subscriber misses it
+        List<SseEmitter> emitters;
+        synchronized (this) {
+            Set<SseEmitter> registered = subscribers.get(city);
+            if (registered == null) {
+                return;
+            }
+            WeatherResponse previous = lastPushed.put(city, current);
+            if (Objects.equals(previous, current)) {
+                logger.debug("Weather for '{}' unchanged, nothing pushed", city);
+                return;
+            }
+            emitters = List.copyOf(registered);
+        }
+
+        logger.info("Pushing updated weather for '{}' to {} subscriber(s)", city, emitters.size());
+        for (SseEmitter emitter : emitters) {
+            push(emitter, city, current);
+        }
+    }
+
+    /**
+     * Queue the latest weather for a city on the subscription and make sure a push thread
+     * is delivering it. A newer update replaces one that has not been written yet.
+     */
+    private void push(SseEmitter emitter, String city, WeatherResponse weather) {
+        Subscription subscription = subscriptions.get(emitter);
+        if (subscription == null) {
+            return;
+        }
+        subscription.pending.put(city, weather);
+        if (subscription.draining.compareAndSet(false, true)) {
+            try {
+                pushExecutor.execute(() -> drain(emitter, subscription));
+            } catch (RejectedExecutionException e) {
+                subscription.draining.set(false);
+                logger.warn("Weather push rejected for '{}': {}", city, e.getMessage());
+            }
+        }
+    }
+
+    private void drain(SseEmitter emitter, Subscription subscription) {
+        do {
+            for (String city : subscription.pending.keySet()) {
+                WeatherResponse weather = subscription.pending.remove(city);
+                if (weather != null && !send(emitter, weather)) {
+                    return;
+                }
+            }
+            subscription.draining.set(false);
+        } while (!subscription.pending.isEmpty() && subscription.draining.compareAndSet(false, true));
+    }
+
+    /**
+     * Get the number of open subscriptions for a city.
+     *
+     * @param cityName The name of the city
+     * @return number of subscribers
+     */
+    public int getSubscriberCount(String cityName) {
+        Set<SseEmitter> emitters = subscribers.get(cityName.trim().toLowerCase());
+        return emitters != null ? emitters.size() : 0;
+    }
+
+    private boolean send(SseEmitter emitter, WeatherResponse weather) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(EVENT_NAME)
+                    .data(ApiResponse.success(weather, false)));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // The container completes the request after an I/O error; only our bookkeeping is left
+            logger.debug("Dropping weather subscriber: {}", e.getMessage());
+            unsubscribe(emitter);
+            return false;
+        }
+    }
+
+    private synchronized void unsubscribe(SseEmitter emitter) {
+        Subscription subscription = subscriptions.remove(emitter);
+        if (subscription == null) {
+            return;
+        }
+        for (String key : subscription.cities) {
+            subscribers.computeIfPresent(key, (k, emitters) -> {
+                emitters.remove(emitter);
+                if (emitters.isEmpty()) {
+                    lastPushed.remove(k);
+                    return null;
+                }
+                return emitters;
+            });
+        }
+    }
+
+    /**
+     * One open subscription: its cities, so removal only touches those, and the
+     * updates waiting to be written by a push thread.
+     */
+    private static class Subscription {
+        private final Set<String> cities;
+        private final Map<String, WeatherResponse> pending = new ConcurrentHashMap<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscription(Set<String> cities) {
+            this.cities = cities;
+        }
+    }
+}
@@ -10,6 +10,9 @@ function App() {
     const [cached, setCached] = useState(false);
     const [cacheStats, setCacheStats] = useState(null);
     const [recentSearches, setRecentSearches] = useState([]);
+    const [searchedCity, setSearchedCity] = useState('');
+    const [liveUpdates, setLiveUpdates] = useState(false);
+    const [liveError, setLiveError] = useState('');
 
     useEffect(() => {
         const saved = localStorage.getItem('recentSearches');
@@ -19,6 +22,30 @@ function App() {
         fetchCacheStats();
     }, []);
 
+    // When live updates are switched on, receive pushed updates for the searched city instead of re-polling.
+    // Subscribe with the query as typed: the returned name can differ (e.g. "Paris,us" returns "Paris").
+    // Opt-in because the server caps subscribed cities; an open tab holds its subscription until closed.
+    useEffect(() => {
+        if (!liveUpdates || !searchedCity) {
+            return;
+        }
+        const source = new EventSource(`${API_BASE_URL}/subscribe?city=${encodeURIComponent(searchedCity)}`);
+        source.addEventListener('weather', (event) => {
+            const data = JSON.parse(event.data);
+            if (data.success) {
+                setWeather(data.data);
+            }
+        });
+        source.onerror = () => {
+            // EventSource gives up without retrying when the server refuses the stream, e.g. 503 at the subscription limit
+            if (source.readyState === EventSource.CLOSED) {
+                setLiveError('Live updates are unavailable right now. Search again to refresh.');
+                setLiveUpdates(false);
+            }
+        };
+        return () => source.close();
+    }, [searchedCity, liveUpdates]);
+
     const fetchCacheStats = async () => {
         try {
             const response = await fetch(`${API_BASE_URL}/cache/stats`);
@@ -40,6 +67,8 @@ function App() {
         setLoading(true);
         setError('');
         setWeather(null);
+        setSearchedCity('');
+        setLiveError('');
 
         try {
             const response = await fetch(`${API_BASE_URL}/search?city=${encodeURIComponent(searchCity.trim())}`);
@@ -48,6 +77,7 @@ function App() {
             if (data.success) {
                 setWeather(data.data);
                 setCached(data.cached);
+                setSearchedCity(searchCity.trim());
                 
                 // Update recent searches
                 const newSearches = [searchCity.trim(), ...recentSearches.filter(s => s.toLowerCase() !== searchCity.trim().toLowerCase())].slice(0, 5);
@@ -171,6 +201,21 @@ function App() {
                             )}
                         </div>
 
+                        <label className="live-toggle">
+                            <input
+                                type="checkbox"
+                                checked={liveUpdates}
+                                onChange={(e) => {
+                                    setLiveError('');
+                                    setLiveUpdates(e.target.checked);
+                                }}
+                            />
+                            Live updates
+                        </label>
+                        {liveError && (
+                            <p className="live-error">⚠️ {liveError}</p>
+                        )}
+
                         <div className="weather-main">
                             <div className="weather-icon-section">
                                 {weather.weather?.[0] && (
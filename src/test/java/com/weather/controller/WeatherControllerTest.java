@@ -1,23 +1,42 @@
 package com.weather.controller;
 
+import com.weather.exception.CityNotFoundException;
+import com.weather.exception.InvalidCityException;
 import com.weather.model.ApiResponse;
 import com.weather.model.CacheStats;
 import com.weather.model.WeatherResponse;
 import com.weather.service.WeatherService;
+import com.weather.service.WeatherSubscriptionService;
+import jakarta.servlet.AsyncListener;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(WeatherController.class)
+@ExtendWith(OutputCaptureExtension.class)
 class WeatherControllerTest {
 
     @Autowired
@@ -26,6 +45,9 @@ class WeatherControllerTest {
     @MockBean
     private WeatherService weatherService;
 
+    @MockBean
+    private WeatherSubscriptionService subscriptionService;
+
     @Test
     void searchWeather_WithValidCity_ReturnsWeatherData() throws Exception {
         // Arrange
@@ -41,13 +63,117 @@ class WeatherControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
-                .andExpect(jsonPath("$.data.cityName").value("London"));
+                .andExpect(jsonPath("$.data.name").value("London"));
+    }
+
+    @Test
+    void searchWeather_WithUnknownCity_ReturnsBadRequest() throws Exception {
+        // Arrange
+        when(weatherService.isCached(anyString())).thenReturn(false);
+        when(weatherService.getCurrentWeather(anyString())).thenThrow(new CityNotFoundException());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/weather/search")
+                        .param("city", "Atlantis")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value(CityNotFoundException.MESSAGE));
+    }
+
+    @Test
+    void subscribe_WithCities_StartsEventStream() throws Exception {
+        // Arrange
+        when(subscriptionService.subscribe(List.of("London", "Paris,us"))).thenReturn(new SseEmitter());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/weather/subscribe")
+                        .param("city", "London", "Paris,us")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+        verify(subscriptionService).subscribe(List.of("London", "Paris,us"));
+    }
+
+    @Test
+    void subscribe_WithInvalidCity_ReturnsJsonError() throws Exception {
+        // Arrange
+        when(subscriptionService.subscribe(List.of("<junk>")))
+                .thenThrow(new InvalidCityException("City name contains invalid characters"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/weather/subscribe")
+                        .param("city", "<junk>")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("City name contains invalid characters"));
+    }
+
+    @Test
+    void subscribe_WhenSubscriptionTimesOut_CompletesStreamQuietly(CapturedOutput output) throws Exception {
+        // Arrange
+        WeatherSubscriptionService realService = new WeatherSubscriptionService(weatherService, 1);
+        ReflectionTestUtils.setField(realService, "maxCitiesPerSubscription", 20);
+        ReflectionTestUtils.setField(realService, "maxSubscriptions", 10);
+        ReflectionTestUtils.setField(realService, "maxSubscribedCities", 10);
+        ReflectionTestUtils.setField(realService, "timeoutMs", 1000L);
+        WeatherResponse london = new WeatherResponse();
+        london.setCityName("London");
+        when(weatherService.getCurrentWeather("london")).thenReturn(london);
+        when(subscriptionService.subscribe(anyList()))
+                .thenAnswer(invocation -> realService.subscribe(invocation.getArgument(0)));
+        MvcResult result = startSubscription();
+        String streamed = result.getResponse().getContentAsString();
+
+        // Act
+        fireAsyncTimeout(result);
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+        assertEquals(streamed, result.getResponse().getContentAsString());
+        assertEquals(0, realService.getSubscriberCount("London"));
+        assertFalse(output.getOut().contains("ERROR"));
+    }
+
+    @Test
+    void subscribe_WhenEmitterIgnoresTimeout_AppendsNothingToStream(CapturedOutput output) throws Exception {
+        // Arrange
+        SseEmitter emitter = new SseEmitter();
+        when(subscriptionService.subscribe(List.of("London"))).thenReturn(emitter);
+        MvcResult result = startSubscription();
+        emitter.send(SseEmitter.event().name("weather").data("{}"));
+        String streamed = result.getResponse().getContentAsString();
+
+        // Act
+        fireAsyncTimeout(result);
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result));
+        assertEquals(streamed, result.getResponse().getContentAsString());
+        assertFalse(output.getOut().contains("ERROR"));
+    }
+
+    private MvcResult startSubscription() throws Exception {
+        return mockMvc.perform(get("/api/weather/subscribe")
+                        .param("city", "London")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private void fireAsyncTimeout(MvcResult result) throws Exception {
+        MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(null);
+        }
     }
 
     @Test
     void getCacheStats_ReturnsStatistics() throws Exception {
         // Arrange
-        CacheStats mockStats = new CacheStats(10, 5, 0.667, 0, 5);
+        CacheStats mockStats = new CacheStats(10, 5, 0.667, 0, 5, 3, 2);
         when(weatherService.getCacheStats()).thenReturn(mockStats);
 
         // Act & Assert
@@ -55,7 +181,8 @@ class WeatherControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
-                .andExpect(jsonPath("$.data.hitCount").value(10));
+                .andExpect(jsonPath("$.data.hitCount").value(10))
+                .andExpect(jsonPath("$.data.negativeHitCount").value(3));
     }
 
     @Test
@@ -1,6 +1,10 @@
 package com.weather.service;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.weather.exception.CityNotFoundException;
+import com.weather.exception.InvalidCityException;
 import com.weather.exception.WeatherServiceException;
+import com.weather.model.CacheStats;
 import com.weather.model.WeatherResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,6 +12,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -29,6 +38,12 @@ class WeatherServiceTest {
     @BeforeEach
     void setUp() {
         weatherService = new WeatherService(restTemplate, cacheManager);
+        ReflectionTestUtils.setField(weatherService, "apiKey", "test-key");
+        ReflectionTestUtils.setField(weatherService, "apiUrl", "https://api.example.com/weather");
+    }
+
+    private CaffeineCache newCaffeineCache(String name) {
+        return new CaffeineCache(name, Caffeine.newBuilder().maximumSize(10).recordStats().build());
     }
 
     @Test
@@ -65,4 +80,76 @@ class WeatherServiceTest {
             weatherService.getCurrentWeather(null);
         });
     }
+
+    @Test
+    void getCurrentWeather_WithInvalidCharacters_ThrowsWithoutCallingApi() {
+        // Act & Assert
+        assertThrows(InvalidCityException.class, () -> {
+            weatherService.getCurrentWeather("<script>alert(1)</script>");
+        });
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void getCurrentWeather_WithTooLongCity_ThrowsWithoutCallingApi() {
+        // Arrange
+        String city = "a".repeat(WeatherService.MAX_CITY_NAME_LENGTH + 1);
+
+        // Act & Assert
+        assertThrows(InvalidCityException.class, () -> {
+            weatherService.getCurrentWeather(city);
+        });
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void getCurrentWeather_WithPunctuatedCity_CallsApi() {
+        // Arrange
+        when(restTemplate.getForObject(anyString(), eq(WeatherResponse.class)))
+                .thenReturn(new WeatherResponse());
+
+        // Act
+        weatherService.getCurrentWeather("St. John's");
+        weatherService.getCurrentWeather("São Paulo,br");
+
+        // Assert
+        verify(restTemplate, times(2)).getForObject(anyString(), eq(WeatherResponse.class));
+    }
+
+    @Test
+    void getCurrentWeather_WithUnknownCity_CachesNotFound() {
+        // Arrange
+        when(cacheManager.getCache("negativeCache")).thenReturn(newCaffeineCache("negativeCache"));
+        when(restTemplate.getForObject(anyString(), eq(WeatherResponse.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", HttpHeaders.EMPTY, new byte[0], null));
+
+        // Act & Assert
+        assertThrows(CityNotFoundException.class, () -> {
+            weatherService.getCurrentWeather("Atlantis");
+        });
+        CityNotFoundException ex = assertThrows(CityNotFoundException.class, () -> {
+            weatherService.getCurrentWeather("ATLANTIS ");
+        });
+        assertEquals(CityNotFoundException.MESSAGE, ex.getMessage());
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(WeatherResponse.class));
+    }
+
+    @Test
+    void getCacheStats_ReportsNegativeCacheHits() {
+        // Arrange
+        when(cacheManager.getCache("weatherCache")).thenReturn(newCaffeineCache("weatherCache"));
+        when(cacheManager.getCache("negativeCache")).thenReturn(newCaffeineCache("negativeCache"));
+        when(restTemplate.getForObject(anyString(), eq(WeatherResponse.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", HttpHeaders.EMPTY, new byte[0], null));
+        assertThrows(CityNotFoundException.class, () -> weatherService.getCurrentWeather("Atlantis"));
+        assertThrows(CityNotFoundException.class, () -> weatherService.getCurrentWeather("Atlantis"));
+
+        // Act
+        CacheStats stats = weatherService.getCacheStats();
+
+        // Assert
+        assertEquals(1, stats.getNegativeHitCount());
+        assertEquals(1, stats.getNegativeSize());
+        assertEquals(0, stats.getSize());
+    }
 }
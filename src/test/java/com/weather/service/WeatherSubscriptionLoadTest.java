@@ -0,0 +1,79 @@
+package com.weather.service;
+
+import com.weather.model.WeatherResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Load test for idle weather subscriptions. Run with {@code mvn test -Pload-test}.
+ * <p>
+ * This measures the heap retained by {@link WeatherSubscriptionService} per subscription:
+ * the SseEmitter, its buffered initial event, and the registry entries. No HTTP connection
+ * or servlet async context exists here, so socket buffers and container state per
+ * connection are not included. The figure is approximate because the JVM may ignore
+ * {@code System.gc()}; it is logged rather than asserted.
+ */
+@Tag("load")
+class WeatherSubscriptionLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(WeatherSubscriptionLoadTest.class);
+
+    private static final int SUBSCRIBER_COUNT = 10_000;
+
+    /**
+     * Returns a fixed response without recording invocations, unlike a Mockito mock.
+     */
+    private static class StubWeatherService extends WeatherService {
+        private final WeatherResponse response = new WeatherResponse();
+
+        StubWeatherService() {
+            super(null, null);
+            response.setCityName("London");
+        }
+
+        @Override
+        public WeatherResponse getCurrentWeather(String cityName) {
+            return response;
+        }
+    }
+
+    @Test
+    void subscribe_With10kIdleSubscribers_ReportsRegistryHeapPerSubscription() {
+        // Arrange
+        WeatherSubscriptionService subscriptionService = new WeatherSubscriptionService(new StubWeatherService(), Runnable::run);
+        ReflectionTestUtils.setField(subscriptionService, "maxCitiesPerSubscription", 20);
+        ReflectionTestUtils.setField(subscriptionService, "maxSubscriptions", SUBSCRIBER_COUNT);
+        ReflectionTestUtils.setField(subscriptionService, "maxSubscribedCities", 50);
+        ReflectionTestUtils.setField(subscriptionService, "timeoutMs", 0L);
+        long before = usedHeapAfterGc();
+
+        // Act
+        for (int i = 0; i < SUBSCRIBER_COUNT; i++) {
+            subscriptionService.subscribe(Collections.singletonList("London"));
+        }
+        long after = usedHeapAfterGc();
+
+        // Assert
+        assertEquals(SUBSCRIBER_COUNT, subscriptionService.getSubscriberCount("London"));
+        logger.info("{} idle subscriptions retained ~{} KB of heap in the service registry (~{} bytes each); "
+                        + "servlet connection overhead is not included",
+                SUBSCRIBER_COUNT, (after - before) / 1024, (after - before) / SUBSCRIBER_COUNT);
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            memory.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,270 @@
+package com.weather.service;
+
+import com.weather.exception.SubscriptionLimitException;
+import com.weather.exception.WeatherServiceException;
+import com.weather.model.WeatherResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WeatherSubscriptionServiceTest {
+
+    @Mock
+    private WeatherService weatherService;
+
+    private final List<CountingEmitter> emitters = new ArrayList<>();
+
+    private WeatherSubscriptionService subscriptionService;
+
+    @BeforeEach
+    void setUp() {
+        // Deliver pushes on the calling thread so assertions can follow refreshes directly
+        subscriptionService = newSubscriptionService(Runnable::run);
+    }
+
+    private WeatherSubscriptionService newSubscriptionService(Executor pushExecutor) {
+        WeatherSubscriptionService service = new WeatherSubscriptionService(weatherService, pushExecutor) {
+            @Override
+            SseEmitter createEmitter() {
+                CountingEmitter emitter = new CountingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(service, "maxCitiesPerSubscription", 20);
+        ReflectionTestUtils.setField(service, "maxSubscriptions", 100);
+        ReflectionTestUtils.setField(service, "maxSubscribedCities", 10);
+        return service;
+    }
+
+    private static void awaitSent(CountingEmitter emitter, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (emitter.sent.get() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, emitter.sent.get());
+    }
+
+    private static WeatherResponse weather(String cityName, double temperature) {
+        WeatherResponse response = new WeatherResponse();
+        response.setCityName(cityName);
+        WeatherResponse.Main main = new WeatherResponse.Main();
+        main.setTemperature(temperature);
+        response.setMain(main);
+        return response;
+    }
+
+    @Test
+    void subscribe_WithNoCities_ThrowsException() {
+        // Act & Assert
+        assertThrows(WeatherServiceException.class, () -> {
+            subscriptionService.subscribe(List.of(" ", ""));
+        });
+        verifyNoInteractions(weatherService);
+    }
+
+    @Test
+    void subscribe_WithTooManyCities_ThrowsException() {
+        // Arrange
+        ReflectionTestUtils.setField(subscriptionService, "maxCitiesPerSubscription", 1);
+
+        // Act & Assert
+        assertThrows(WeatherServiceException.class, () -> {
+            subscriptionService.subscribe(List.of("London", "Paris"));
+        });
+        verifyNoInteractions(weatherService);
+    }
+
+    @Test
+    void subscribe_OverSubscriptionLimit_ThrowsWithoutCallingApi() {
+        // Arrange
+        ReflectionTestUtils.setField(subscriptionService, "maxSubscriptions", 1);
+        when(weatherService.getCurrentWeather("london")).thenReturn(weather("London", 10.0));
+        subscriptionService.subscribe(List.of("London"));
+
+        // Act & Assert
+        assertThrows(SubscriptionLimitException.class, () -> {
+            subscriptionService.subscribe(List.of("London"));
+        });
+        verify(weatherService, times(1)).getCurrentWeather(anyString());
+    }
+
+    @Test
+    void subscribe_OverSubscribedCityLimit_OnlyRejectsNewCities() {
+        // Arrange
+        ReflectionTestUtils.setField(subscriptionService, "maxSubscribedCities", 1);
+        when(weatherService.getCurrentWeather("london")).thenReturn(weather("London", 10.0));
+        subscriptionService.subscribe(List.of("London"));
+
+        // Act & Assert
+        assertThrows(SubscriptionLimitException.class, () -> {
+            subscriptionService.subscribe(List.of("Paris"));
+        });
+        subscriptionService.subscribe(List.of("London"));
+        assertEquals(2, subscriptionService.getSubscriberCount("London"));
+        verify(weatherService, never()).getCurrentWeather("paris");
+    }
+
+    @Test
+    void refreshSubscribedCities_WhenSendFails_DropsSubscriber() {
+        // Arrange
+        when(weatherService.getCurrentWeather("london")).thenReturn(weather("London", 10.0));
+        when(weatherService.refreshWeather("london")).thenReturn(weather("London", 12.0));
+        subscriptionService.subscribe(List.of("London"));
+        emitters.get(0).failing = true;
+
+        // Act
+        subscriptionService.refreshSubscribedCities();
+
+        // Assert
+        assertEquals(0, subscriptionService.getSubscriberCount("London"));
+    }
+
+    @Test
+    void subscribe_WithValidCities_SendsCurrentWeather() {
+        // Arrange
+        when(weatherService.getCurrentWeather("london")).thenReturn(weather("London", 10.0));
+        when(weatherService.getCurrentWeather("paris")).thenReturn(weather("Paris", 15.0));
+
+        // Act
+        subscriptionService.subscribe(List.of("London", "PARIS", "london"));
+
+        // Assert
+        assertEquals(2, emitters.get(0).sent.get());
+        assertEquals(1, subscriptionService.getSubscriberCount("London"));
+        assertEquals(1, subscriptionService.getSubscriberCount("Paris"));
+    }
+
+    @Test
+    void refreshSubscribedCities_FetchesOncePerCityAndPushesChangesToAll() {
+        // Arrange
+        when(weatherService.getCurrentWeather("london")).thenReturn(weather("London", 10.0));
+        when(weatherService.refreshWeather("london")).thenReturn(weather("London", 12.0));
+        for (int i = 0; i < 3; i++) {
+            subscriptionService.subscribe(List.of("London"));
+        }
+
+        // Act
+        subscriptionService.refreshSubscribedCities();
+
+        // Assert
+        verify(weatherService, times(1)).refreshWeather("london");
+        for (CountingEmitter emitter : emitters) {
+            assertEquals(2, emitter.sent.get());
+        }
+    }
+
+    @Test
+    void refreshSubscribedCities_WhenSubscribersChangeDuringRefresh_PushesToNewSubscriber() {
+        // Arrange
+        when(weatherService.getCurrentWeather("london")).thenReturn(weather("London", 10.0));
+        subscriptionService.subscribe(List.of("London"));
+        when(weatherService.refreshWeather("london")).thenAnswer(invocation -> {
+            // The last subscriber leaves and a new one joins with stale cached data mid-refresh
+            ReflectionTestUtils.invokeMethod(subscriptionService, "unsubscribe", emitters.get(0));
+            subscriptionService.subscribe(List.of("London"));
+            return weather("London", 12.0);
+        });
+
+        // Act
+        subscriptionService.refreshSubscribedCities();
+
+        // Assert
+        assertEquals(1, emitters.get(0).sent.get());
+        assertEquals(2, emitters.get(1).sent.get());
+        assertEquals(1, subscriptionService.getSubscriberCount("London"));
+    }
+
+    @Test
+    void refreshSubscribedCities_WithStalledSubscriber_StillServesOthers() throws Exception {
+        // Arrange
+        ExecutorService pushPool = Executors.newFixedThreadPool(2);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            WeatherSubscriptionService service = newSubscriptionService(pushPool);
+            when(weatherService.getCurrentWeather("london")).thenReturn(weather("London", 10.0));
+            when(weatherService.refreshWeather("london")).thenReturn(weather("London", 12.0));
+            for (int i = 0; i < 4; i++) {
+                service.subscribe(List.of("London"));
+            }
+            emitters.get(0).blockUntil = release;
+
+            // Act
+            assertTimeout(Duration.ofSeconds(1), service::refreshSubscribedCities);
+
+            // Assert
+            for (CountingEmitter emitter : emitters.subList(1, emitters.size())) {
+                awaitSent(emitter, 2);
+            }
+            assertEquals(1, emitters.get(0).sent.get());
+        } finally {
+            release.countDown();
+            pushPool.shutdownNow();
+        }
+    }
+
+    @Test
+    void refreshSubscribedCities_WithUnchangedData_PushesNothing() {
+        // Arrange
+        when(weatherService.getCurrentWeather("london")).thenReturn(weather("London", 10.0));
+        when(weatherService.refreshWeather("london")).thenReturn(weather("London", 10.0));
+        subscriptionService.subscribe(List.of("London"));
+
+        // Act
+        subscriptionService.refreshSubscribedCities();
+
+        // Assert
+        assertEquals(1, emitters.get(0).sent.get());
+    }
+
+    @Test
+    void refreshSubscribedCities_WithNoSubscribers_DoesNotCallApi() {
+        // Act
+        subscriptionService.refreshSubscribedCities();
+
+        // Assert
+        verify(weatherService, never()).refreshWeather(anyString());
+    }
+
+    private static class CountingEmitter extends SseEmitter {
+        private final AtomicInteger sent = new AtomicInteger();
+        private volatile boolean failing;
+        private volatile CountDownLatch blockUntil;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            if (blockUntil != null) {
+                // Simulates a client whose socket send buffer is full
+                try {
+                    blockUntil.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            sent.incrementAndGet();
+        }
+    }
+}